@@ -0,0 +1,52 @@
+package com.levelup.carrito.controller;
+
+import com.levelup.carrito.dto.EstadisticasCacheDTO;
+import com.levelup.carrito.service.CacheEstadisticasService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cache")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class CacheController {
+    
+    private final CacheEstadisticasService cacheEstadisticasService;
+    
+    /**
+     * GET /api/cache/estadisticas
+     * Hits/misses del cache de segundo nivel por región
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<EstadisticasCacheDTO> obtenerEstadisticas() {
+        log.info("GET /api/cache/estadisticas");
+        
+        try {
+            return ResponseEntity.ok(cacheEstadisticasService.obtenerEstadisticas());
+        } catch (Exception e) {
+            log.error("Error al obtener estadísticas de cache: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    /**
+     * DELETE /api/cache/estadisticas
+     * Reiniciar contadores de estadísticas
+     */
+    @DeleteMapping("/estadisticas")
+    public ResponseEntity<Void> reiniciarEstadisticas() {
+        log.info("DELETE /api/cache/estadisticas");
+        
+        try {
+            cacheEstadisticasService.reiniciarEstadisticas();
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            log.error("Error al reiniciar estadísticas de cache: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
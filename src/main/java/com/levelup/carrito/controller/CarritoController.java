@@ -2,6 +2,7 @@ package com.levelup.carrito.controller;
 
 import com.levelup.carrito.dto.*;
 import com.levelup.carrito.service.CarritoService;
+import com.levelup.carrito.service.IdempotenciaService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 public class CarritoController {
     
     private final CarritoService carritoService;
+    private final IdempotenciaService idempotenciaService;
     
     /**
      * GET /api/carrito/{usuarioId}?esDuoc=true
@@ -40,113 +42,139 @@ public class CarritoController {
     
     /**
      * POST /api/carrito/{usuarioId}/items?esDuoc=true
-     * Agregar producto al carrito
+     * Agregar producto al carrito (acepta header Idempotency-Key)
      */
     @PostMapping("/{usuarioId}/items")
     public ResponseEntity<CarritoDTO> agregarProducto(
             @PathVariable Long usuarioId,
             @Valid @RequestBody AgregarItemDTO agregarItemDTO,
-            @RequestParam(defaultValue = "false") boolean esDuoc) {
+            @RequestParam(defaultValue = "false") boolean esDuoc,
+            @RequestHeader(value = IdempotenciaService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         
         log.info("POST /api/carrito/{}/items - Producto: {}, Cantidad: {}", 
                  usuarioId, agregarItemDTO.getProductoId(), agregarItemDTO.getCantidad());
         
-        try {
-            CarritoDTO carrito = carritoService.agregarProducto(usuarioId, agregarItemDTO, esDuoc);
-            return ResponseEntity.status(HttpStatus.CREATED).body(carrito);
-        } catch (IllegalArgumentException e) {
-            log.error("Error de validación: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (Exception e) {
-            log.error("Error al agregar producto: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String huella = "POST /api/carrito/" + usuarioId + "/items?esDuoc=" + esDuoc + " " + agregarItemDTO;
+        return idempotenciaService.ejecutar(idempotencyKey, huella, () -> {
+            try {
+                CarritoDTO carrito = carritoService.agregarProducto(usuarioId, agregarItemDTO, esDuoc);
+                return ResponseEntity.status(HttpStatus.CREATED).body(carrito);
+            } catch (IllegalArgumentException e) {
+                log.error("Error de validación: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            } catch (Exception e) {
+                log.error("Error al agregar producto: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
     
     /**
      * PUT /api/carrito/items/{itemId}
-     * Actualizar cantidad de un item
+     * Actualizar cantidad de un item (acepta header Idempotency-Key)
      */
     @PutMapping("/items/{itemId}")
     public ResponseEntity<CarritoDTO> actualizarCantidad(
             @PathVariable Long itemId,
-            @Valid @RequestBody ActualizarCantidadDTO actualizarDTO) {
+            @Valid @RequestBody ActualizarCantidadDTO actualizarDTO,
+            @RequestHeader(value = IdempotenciaService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         
         log.info("PUT /api/carrito/items/{} - Nueva cantidad: {}", itemId, actualizarDTO.getCantidad());
         
-        try {
-            CarritoDTO carrito = carritoService.actualizarCantidad(itemId, actualizarDTO.getCantidad());
-            return ResponseEntity.ok(carrito);
-        } catch (IllegalArgumentException e) {
-            log.error("Error de validación: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (RuntimeException e) {
-            log.error("Error: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        } catch (Exception e) {
-            log.error("Error al actualizar cantidad: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String huella = "PUT /api/carrito/items/" + itemId + " " + actualizarDTO;
+        return idempotenciaService.ejecutar(idempotencyKey, huella, () -> {
+            try {
+                CarritoDTO carrito = carritoService.actualizarCantidad(itemId, actualizarDTO.getCantidad());
+                return ResponseEntity.ok(carrito);
+            } catch (IllegalArgumentException e) {
+                log.error("Error de validación: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+            } catch (RuntimeException e) {
+                log.error("Error: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } catch (Exception e) {
+                log.error("Error al actualizar cantidad: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
     
     /**
      * DELETE /api/carrito/items/{itemId}
-     * Eliminar item del carrito
+     * Eliminar item del carrito (acepta header Idempotency-Key)
      */
     @DeleteMapping("/items/{itemId}")
-    public ResponseEntity<CarritoDTO> eliminarItem(@PathVariable Long itemId) {
+    public ResponseEntity<CarritoDTO> eliminarItem(
+            @PathVariable Long itemId,
+            @RequestHeader(value = IdempotenciaService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        
         log.info("DELETE /api/carrito/items/{}", itemId);
         
-        try {
-            CarritoDTO carrito = carritoService.eliminarItem(itemId);
-            return ResponseEntity.ok(carrito);
-        } catch (RuntimeException e) {
-            log.error("Error: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        } catch (Exception e) {
-            log.error("Error al eliminar item: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String huella = "DELETE /api/carrito/items/" + itemId;
+        return idempotenciaService.ejecutar(idempotencyKey, huella, () -> {
+            try {
+                CarritoDTO carrito = carritoService.eliminarItem(itemId);
+                return ResponseEntity.ok(carrito);
+            } catch (RuntimeException e) {
+                log.error("Error: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } catch (Exception e) {
+                log.error("Error al eliminar item: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
     
     /**
      * DELETE /api/carrito/{usuarioId}/limpiar
-     * Vaciar carrito
+     * Vaciar carrito (acepta header Idempotency-Key)
      */
     @DeleteMapping("/{usuarioId}/limpiar")
-    public ResponseEntity<Void> vaciarCarrito(@PathVariable Long usuarioId) {
+    public ResponseEntity<Void> vaciarCarrito(
+            @PathVariable Long usuarioId,
+            @RequestHeader(value = IdempotenciaService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        
         log.info("DELETE /api/carrito/{}/limpiar", usuarioId);
         
-        try {
-            carritoService.vaciarCarrito(usuarioId);
-            return ResponseEntity.noContent().build();
-        } catch (RuntimeException e) {
-            log.error("Error: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        } catch (Exception e) {
-            log.error("Error al vaciar carrito: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String huella = "DELETE /api/carrito/" + usuarioId + "/limpiar";
+        return idempotenciaService.ejecutar(idempotencyKey, huella, () -> {
+            try {
+                carritoService.vaciarCarrito(usuarioId);
+                return ResponseEntity.noContent().build();
+            } catch (RuntimeException e) {
+                log.error("Error: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } catch (Exception e) {
+                log.error("Error al vaciar carrito: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
     
     /**
      * POST /api/carrito/{usuarioId}/cerrar
-     * Cerrar carrito (después de compra)
+     * Cerrar carrito (después de compra, acepta header Idempotency-Key)
      */
     @PostMapping("/{usuarioId}/cerrar")
-    public ResponseEntity<Void> cerrarCarrito(@PathVariable Long usuarioId) {
+    public ResponseEntity<Void> cerrarCarrito(
+            @PathVariable Long usuarioId,
+            @RequestHeader(value = IdempotenciaService.HEADER_IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        
         log.info("POST /api/carrito/{}/cerrar", usuarioId);
         
-        try {
-            carritoService.cerrarCarrito(usuarioId);
-            return ResponseEntity.ok().build();
-        } catch (RuntimeException e) {
-            log.error("Error: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-        } catch (Exception e) {
-            log.error("Error al cerrar carrito: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+        String huella = "POST /api/carrito/" + usuarioId + "/cerrar";
+        return idempotenciaService.ejecutar(idempotencyKey, huella, () -> {
+            try {
+                carritoService.cerrarCarrito(usuarioId);
+                return ResponseEntity.<Void>ok().build();
+            } catch (RuntimeException e) {
+                log.error("Error: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            } catch (Exception e) {
+                log.error("Error al cerrar carrito: {}", e.getMessage());
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            }
+        });
     }
     
     /**
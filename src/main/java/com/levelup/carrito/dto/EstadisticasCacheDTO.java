@@ -0,0 +1,22 @@
+package com.levelup.carrito.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheDTO {
+    private Boolean habilitado;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Long queryCacheHits;
+    private Long queryCacheMisses;
+    private List<RegionCacheDTO> regiones;
+}
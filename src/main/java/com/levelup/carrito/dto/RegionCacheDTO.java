@@ -0,0 +1,19 @@
+package com.levelup.carrito.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RegionCacheDTO {
+    private String region;
+    private Long hits;
+    private Long misses;
+    private Long puts;
+    private Long elementosEnMemoria;
+    private Double hitRatio;
+}
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -13,6 +15,8 @@ import java.util.List;
 
 @Entity
 @Table(name = "carritos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "carritos")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,6 +43,7 @@ public class CarritoEntity {
     private BigDecimal total;
     
     @OneToMany(mappedBy = "carrito", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "carritoItems")
     private List<ItemCarritoEntity> items = new ArrayList<>();
     
     @PrePersist
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "items_carrito")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "itemsCarrito")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,8 +2,11 @@ package com.levelup.carrito.repository;
 
 import com.levelup.carrito.entity.CarritoEntity;
 import com.levelup.carrito.model.EstadoCarrito;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,7 +16,13 @@ import java.util.Optional;
 public interface CarritoRepository extends JpaRepository<CarritoEntity, Long> {
     
     // Query Objetual - Buscar carrito activo por usuario
+    // Cacheable en la región "carritosActivos" (solo con el perfil 'cache'); Hibernate la invalida
+    // automáticamente en cualquier insert/update/delete sobre la tabla carritos
     @Query("SELECT c FROM CarritoEntity c WHERE c.usuarioId = :usuarioId AND c.estado = :estado")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "carritosActivos")
+    })
     Optional<CarritoEntity> findByUsuarioIdAndEstado(
             @Param("usuarioId") Long usuarioId, 
             @Param("estado") EstadoCarrito estado
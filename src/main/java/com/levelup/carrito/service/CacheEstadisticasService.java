@@ -0,0 +1,75 @@
+package com.levelup.carrito.service;
+
+import com.levelup.carrito.dto.EstadisticasCacheDTO;
+import com.levelup.carrito.dto.RegionCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class CacheEstadisticasService {
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    /**
+     * Obtener hits/misses del cache de segundo nivel por región
+     */
+    public EstadisticasCacheDTO obtenerEstadisticas() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        boolean habilitado = sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+        
+        List<RegionCacheDTO> regiones = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(region -> convertirRegionADTO(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        return EstadisticasCacheDTO.builder()
+                .habilitado(habilitado && statistics.isStatisticsEnabled())
+                .hits(statistics.getSecondLevelCacheHitCount())
+                .misses(statistics.getSecondLevelCacheMissCount())
+                .puts(statistics.getSecondLevelCachePutCount())
+                .queryCacheHits(statistics.getQueryCacheHitCount())
+                .queryCacheMisses(statistics.getQueryCacheMissCount())
+                .regiones(regiones)
+                .build();
+    }
+    
+    /**
+     * Reiniciar contadores (útil para medir una ventana de tráfico concreta)
+     */
+    public void reiniciarEstadisticas() {
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private RegionCacheDTO convertirRegionADTO(String region, CacheRegionStatistics estadisticas) {
+        if (estadisticas == null) {
+            return null;
+        }
+        
+        long accesos = estadisticas.getHitCount() + estadisticas.getMissCount();
+        // JCache no expone el tamaño de la región: Hibernate devuelve un valor negativo
+        long elementos = estadisticas.getElementCountInMemory();
+        
+        return RegionCacheDTO.builder()
+                .region(region)
+                .hits(estadisticas.getHitCount())
+                .misses(estadisticas.getMissCount())
+                .puts(estadisticas.getPutCount())
+                .elementosEnMemoria(elementos < 0 ? null : elementos)
+                .hitRatio(accesos == 0 ? 0.0 : (double) estadisticas.getHitCount() / accesos)
+                .build();
+    }
+}
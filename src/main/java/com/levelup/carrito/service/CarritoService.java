@@ -6,45 +6,83 @@ import com.levelup.carrito.entity.ItemCarritoEntity;
 import com.levelup.carrito.model.EstadoCarrito;
 import com.levelup.carrito.repository.CarritoRepository;
 import com.levelup.carrito.repository.ItemCarritoRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CarritoService {
     
     private final CarritoRepository carritoRepository;
     private final ItemCarritoRepository itemCarritoRepository;
+    private final TransactionTemplate transaccionLectura;
+    private final TransactionTemplate transaccionEscritura;
+    
+    // Lecturas en curso por usuario: las requests concurrentes comparten una sola carga (single-flight)
+    private final Map<Long, CompletableFuture<Optional<CarritoDTO>>> lecturasEnCurso = new ConcurrentHashMap<>();
     
     @Value("${app.descuento.duoc.porcentaje:20}")
     private int descuentoDuocPorcentaje;
     
+    public CarritoService(CarritoRepository carritoRepository,
+                          ItemCarritoRepository itemCarritoRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.carritoRepository = carritoRepository;
+        this.itemCarritoRepository = itemCarritoRepository;
+        this.transaccionLectura = new TransactionTemplate(transactionManager);
+        this.transaccionLectura.setReadOnly(true);
+        this.transaccionEscritura = new TransactionTemplate(transactionManager);
+    }
+    
     /**
      * Obtener o crear carrito activo para un usuario
+     *
+     * Sin @Transactional a propósito: la lectura compartida abre su propia transacción solo en
+     * la request que va a la base de datos, y las que esperan no deben retener una transacción
+     * (ni una conexión) mientras tanto. Solo se abre transacción de escritura si hay que crear
+     * el carrito o aplicar el descuento.
      */
-    @Transactional
     public CarritoDTO obtenerCarritoActivo(Long usuarioId, boolean esDuoc) {
         log.info("Obteniendo carrito activo para usuario: {}", usuarioId);
         
-        CarritoEntity carrito = carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO)
-                .orElseGet(() -> crearNuevoCarrito(usuarioId, esDuoc));
-        
-        // Actualizar descuento si es necesario
-        if (esDuoc && carrito.getDescuentoAplicado().compareTo(BigDecimal.ZERO) == 0) {
-            carrito.setDescuentoAplicado(new BigDecimal(descuentoDuocPorcentaje));
-            carrito = carritoRepository.save(carrito);
+        // Camino rápido: el carrito ya existe y no hay descuento que aplicar
+        Optional<CarritoDTO> existente = leerCarritoActivo(usuarioId);
+        if (existente.isPresent()
+                && !(esDuoc && existente.get().getDescuentoAplicado().compareTo(BigDecimal.ZERO) == 0)) {
+            // El snapshot es compartido con otras requests: cada llamador recibe su propia copia
+            return copiarDTO(existente.get());
         }
         
-        return convertirADTO(carrito);
+        // Crear el carrito o aplicar el descuento DUOC requiere una transacción de escritura
+        return transaccionEscritura.execute(status -> {
+            CarritoEntity carrito = carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO)
+                    .orElseGet(() -> crearNuevoCarrito(usuarioId, esDuoc));
+            
+            // Actualizar descuento si es necesario
+            if (esDuoc && carrito.getDescuentoAplicado().compareTo(BigDecimal.ZERO) == 0) {
+                carrito.setDescuentoAplicado(new BigDecimal(descuentoDuocPorcentaje));
+                carrito = carritoRepository.save(carrito);
+            }
+            
+            invalidarLecturaAlConfirmar(usuarioId);
+            return convertirADTO(carrito);
+        });
     }
     
     /**
@@ -92,6 +130,7 @@ public class CarritoService {
         // Recalcular total del carrito
         calcularTotalCarrito(carrito);
         carrito = carritoRepository.save(carrito);
+        invalidarLecturaAlConfirmar(usuarioId);
         
         return convertirADTO(carrito);
     }
@@ -117,6 +156,7 @@ public class CarritoService {
         CarritoEntity carrito = item.getCarrito();
         calcularTotalCarrito(carrito);
         carrito = carritoRepository.save(carrito);
+        invalidarLecturaAlConfirmar(carrito.getUsuarioId());
         
         return convertirADTO(carrito);
     }
@@ -137,6 +177,7 @@ public class CarritoService {
         
         calcularTotalCarrito(carrito);
         carrito = carritoRepository.save(carrito);
+        invalidarLecturaAlConfirmar(carrito.getUsuarioId());
         
         return convertirADTO(carrito);
     }
@@ -154,6 +195,7 @@ public class CarritoService {
         carrito.getItems().clear();
         carrito.setTotal(BigDecimal.ZERO);
         carritoRepository.save(carrito);
+        invalidarLecturaAlConfirmar(usuarioId);
     }
     
     /**
@@ -168,38 +210,111 @@ public class CarritoService {
         
         carrito.setEstado(EstadoCarrito.CERRADO);
         carritoRepository.save(carrito);
+        invalidarLecturaAlConfirmar(usuarioId);
     }
     
     /**
-     * Obtener resumen del total
+     * Obtener resumen del total (derivado del mismo snapshot que obtenerCarritoActivo)
      */
-    @Transactional(readOnly = true)
     public ResumenTotalDTO obtenerTotal(Long usuarioId) {
         log.info("Obteniendo total del carrito para usuario: {}", usuarioId);
         
-        CarritoEntity carrito = carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO)
+        CarritoDTO carrito = leerCarritoActivo(usuarioId)
                 .orElseThrow(() -> new RuntimeException("No hay carrito activo para el usuario: " + usuarioId));
         
-        BigDecimal subtotal = carrito.getItems().stream()
-                .map(ItemCarritoEntity::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal descuento = subtotal.multiply(carrito.getDescuentoAplicado())
-                .divide(new BigDecimal(100), 2, RoundingMode.HALF_UP);
-        
-        BigDecimal total = subtotal.subtract(descuento);
-        
         return ResumenTotalDTO.builder()
-                .subtotal(subtotal)
+                .subtotal(carrito.getSubtotal())
                 .descuentoPorcentaje(carrito.getDescuentoAplicado())
-                .descuentoMonto(descuento)
-                .total(total)
-                .cantidadItems(carrito.getItems().size())
+                .descuentoMonto(carrito.getDescuentoMonto())
+                .total(carrito.getSubtotal().subtract(carrito.getDescuentoMonto()))
+                .cantidadItems(carrito.getCantidadItems())
                 .build();
     }
     
     // ===== MÉTODOS PRIVADOS =====
     
+    /**
+     * Leer el carrito activo compartiendo la carga con las lecturas concurrentes del mismo usuario.
+     * Solo la primera request abre transacción y va a la base de datos; las demás esperan su resultado.
+     * El DTO devuelto es compartido entre todas esas requests: tratarlo como solo lectura.
+     */
+    private Optional<CarritoDTO> leerCarritoActivo(Long usuarioId) {
+        CompletableFuture<Optional<CarritoDTO>> nueva = new CompletableFuture<>();
+        CompletableFuture<Optional<CarritoDTO>> enCurso = lecturasEnCurso.putIfAbsent(usuarioId, nueva);
+        
+        if (enCurso != null) {
+            log.debug("Lectura del carrito del usuario {} compartida con una request en curso", usuarioId);
+            try {
+                return enCurso.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                if (e.getCause() instanceof Error causa) {
+                    throw causa;
+                }
+                throw e;
+            }
+        }
+        
+        try {
+            Optional<CarritoDTO> carrito = transaccionLectura.execute(status ->
+                    carritoRepository.findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO)
+                            .map(this::convertirADTO));
+            nueva.complete(carrito);
+            return carrito;
+        } catch (Throwable e) {
+            // Cualquier falla (incluidos Error) debe liberar a las requests que esperan en join()
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            lecturasEnCurso.remove(usuarioId, nueva);
+        }
+    }
+    
+    /**
+     * Al confirmar una escritura, las lecturas que empiecen después no deben sumarse a una
+     * carga iniciada antes del cambio: se quita la lectura en curso del usuario.
+     */
+    private void invalidarLecturaAlConfirmar(Long usuarioId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lecturasEnCurso.remove(usuarioId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lecturasEnCurso.remove(usuarioId);
+            }
+        });
+    }
+    
+    private CarritoDTO copiarDTO(CarritoDTO carrito) {
+        List<ItemCarritoDTO> items = carrito.getItems().stream()
+                .map(item -> ItemCarritoDTO.builder()
+                        .id(item.getId())
+                        .productoId(item.getProductoId())
+                        .nombreProducto(item.getNombreProducto())
+                        .precioUnitario(item.getPrecioUnitario())
+                        .cantidad(item.getCantidad())
+                        .subtotal(item.getSubtotal())
+                        .build())
+                .collect(Collectors.toList());
+        
+        return CarritoDTO.builder()
+                .id(carrito.getId())
+                .usuarioId(carrito.getUsuarioId())
+                .fechaCreacion(carrito.getFechaCreacion())
+                .estado(carrito.getEstado())
+                .descuentoAplicado(carrito.getDescuentoAplicado())
+                .items(items)
+                .subtotal(carrito.getSubtotal())
+                .descuentoMonto(carrito.getDescuentoMonto())
+                .total(carrito.getTotal())
+                .cantidadItems(carrito.getCantidadItems())
+                .build();
+    }
+    
     private CarritoEntity crearNuevoCarrito(Long usuarioId, boolean esDuoc) {
         log.info("Creando nuevo carrito para usuario: {}", usuarioId);
         
@@ -0,0 +1,160 @@
+package com.levelup.carrito.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.levelup.carrito.dto.CarritoDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Respuestas idempotentes para el header Idempotency-Key.
+ *
+ * La primera request con una clave ejecuta la operación y, si responde 2xx, su respuesta
+ * se guarda en memoria (TTL + peso máximo). Los reintentos con la misma clave reciben la
+ * respuesta guardada sin tocar la base de datos; los reintentos concurrentes esperan a
+ * la primera ejecución en vez de ejecutarse en paralelo.
+ *
+ * Las ejecuciones en curso viven en un mapa aparte sin límite: el cache acotado puede
+ * rechazar o desalojar entradas nuevas, y perder la marca de "en curso" haría que un
+ * reintento concurrente ejecute la operación otra vez.
+ */
+@Service
+@Slf4j
+public class IdempotenciaService {
+    
+    public static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String HEADER_REPLAYED = "Idempotent-Replayed";
+    
+    private static final int LARGO_MAXIMO_CLAVE = 255;
+    
+    // Respuestas 2xx ya completadas (acotado por TTL y peso)
+    private final Cache<String, RespuestaGuardada> respuestas;
+    
+    // Ejecuciones en curso por clave; cada entrada se quita al terminar la ejecución
+    private final Map<String, CompletableFuture<RespuestaGuardada>> enCurso = new ConcurrentHashMap<>();
+    
+    public IdempotenciaService(
+            @Value("${app.idempotencia.ttl-minutos:60}") long ttlMinutos,
+            @Value("${app.idempotencia.peso-maximo:200000}") long pesoMaximo) {
+        
+        this.respuestas = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+                .maximumWeight(pesoMaximo)
+                .weigher((String clave, RespuestaGuardada guardada) -> calcularPeso(guardada))
+                .build();
+    }
+    
+    /**
+     * Ejecutar una operación mutante respetando el Idempotency-Key (si viene)
+     *
+     * @param clave  valor del header Idempotency-Key, puede ser null
+     * @param huella identifica la request (método, ruta y cuerpo); una clave reutilizada
+     *               con otra huella se rechaza con 422
+     * @param accion la operación real
+     */
+    public <T> ResponseEntity<T> ejecutar(String clave, String huella, Supplier<ResponseEntity<T>> accion) {
+        if (clave == null) {
+            return accion.get();
+        }
+        if (clave.isBlank() || clave.length() > LARGO_MAXIMO_CLAVE) {
+            log.warn("Idempotency-Key inválido: largo {}", clave.length());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+        
+        RespuestaGuardada guardada = respuestas.getIfPresent(clave);
+        if (guardada != null) {
+            return reenviar(clave, huella, guardada);
+        }
+        
+        CompletableFuture<RespuestaGuardada> nueva = new CompletableFuture<>();
+        CompletableFuture<RespuestaGuardada> existente = enCurso.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            return reenviar(clave, huella, esperar(existente));
+        }
+        
+        try {
+            // La ejecución anterior pudo terminar entre la consulta al cache y el putIfAbsent
+            guardada = respuestas.getIfPresent(clave);
+            if (guardada == null) {
+                guardada = new RespuestaGuardada(huella, accion.get());
+                // Solo se guardan respuestas exitosas: ante un error el cliente puede reintentar
+                if (guardada.exitosa()) {
+                    respuestas.put(clave, guardada);
+                }
+                nueva.complete(guardada);
+                return respuestaPropia(guardada);
+            }
+            nueva.complete(guardada);
+            return reenviar(clave, huella, guardada);
+        } catch (RuntimeException | Error e) {
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, nueva);
+        }
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private static RespuestaGuardada esperar(CompletableFuture<RespuestaGuardada> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> respuestaPropia(RespuestaGuardada guardada) {
+        return (ResponseEntity<T>) guardada.respuesta();
+    }
+    
+    /**
+     * Respuesta para un reintento: solo las respuestas 2xx se marcan como reenviadas;
+     * un error de la ejecución en curso se devuelve tal cual (no quedó guardado)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> reenviar(String clave, String huella, RespuestaGuardada guardada) {
+        if (!guardada.huella().equals(huella)) {
+            log.warn("Idempotency-Key {} reutilizado con otra request", clave);
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+        }
+        if (!guardada.exitosa()) {
+            return respuestaPropia(guardada);
+        }
+        log.info("Idempotency-Key {} repetido, reenviando respuesta guardada", clave);
+        return (ResponseEntity<T>) ResponseEntity.status(guardada.respuesta().getStatusCode())
+                .header(HEADER_REPLAYED, "true")
+                .body(guardada.respuesta().getBody());
+    }
+    
+    private static int calcularPeso(RespuestaGuardada guardada) {
+        if (guardada.respuesta().getBody() instanceof CarritoDTO carrito && carrito.getItems() != null) {
+            return 1 + carrito.getItems().size();
+        }
+        return 1;
+    }
+    
+    private record RespuestaGuardada(String huella, ResponseEntity<?> respuesta) {
+        
+        boolean exitosa() {
+            return respuesta.getStatusCode().is2xxSuccessful();
+        }
+    }
+}
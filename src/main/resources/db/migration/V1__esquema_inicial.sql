@@ -0,0 +1,23 @@
+-- Esquema inicial del carrito (equivalente al generado antes por ddl-auto=update)
+
+CREATE TABLE carritos (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    usuario_id BIGINT NOT NULL,
+    fecha_creacion DATETIME(6) NOT NULL,
+    estado ENUM('ACTIVO', 'CERRADO') NOT NULL,
+    descuento_aplicado DECIMAL(5, 2) NOT NULL,
+    total DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE items_carrito (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    carrito_id BIGINT NOT NULL,
+    producto_id BIGINT NOT NULL,
+    nombre_producto VARCHAR(200) NOT NULL,
+    precio_unitario DECIMAL(10, 2) NOT NULL,
+    cantidad INTEGER NOT NULL,
+    subtotal DECIMAL(10, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_items_carrito_carrito FOREIGN KEY (carrito_id) REFERENCES carritos (id)
+);
@@ -0,0 +1,5 @@
+-- Índices para las búsquedas frecuentes: carrito activo por usuario e item por carrito/producto
+
+CREATE INDEX idx_carritos_usuario_estado ON carritos (usuario_id, estado);
+
+CREATE INDEX idx_items_carrito_producto ON items_carrito (carrito_id, producto_id);
@@ -0,0 +1,23 @@
+package com.levelup.carrito;
+
+import com.levelup.carrito.dto.AgregarItemDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Datos de prueba compartidos por las pruebas de la aplicación
+ */
+public final class DatosPrueba {
+    
+    public static final BigDecimal PRECIO_UNITARIO = new BigDecimal("1000.00");
+    
+    private DatosPrueba() {
+    }
+    
+    /**
+     * Item a agregar con precio fijo (PRECIO_UNITARIO) y nombre derivado del producto
+     */
+    public static AgregarItemDTO item(Long productoId, int cantidad) {
+        return new AgregarItemDTO(productoId, "Producto " + productoId, PRECIO_UNITARIO, cantidad);
+    }
+}
@@ -0,0 +1,153 @@
+package com.levelup.carrito.carga;
+
+import com.levelup.carrito.CarritoServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.Driver;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Tiempo de arranque hasta la primera request exitosa (time-to-first-request) del build
+ * fast-start: lanza el jar de target/cds con el archivo CDS y AOT activos en una JVM nueva
+ * y mide desde el inicio del proceso hasta el primer 200 de GET /api/carrito/{usuarioId}.
+ * Se reporta la mediana.
+ *
+ * Requiere haber corrido antes mvn -Pfast-start package; sin el jar la prueba se omite.
+ * La JVM se lanza con -Xshare:on: si el archivo CDS no se puede usar (por ejemplo, porque
+ * el classpath no coincide con el del entrenamiento) el arranque falla en vez de medir sin CDS.
+ * La base de datos es H2 en memoria: el driver se agrega al final del classpath, lo que
+ * CDS acepta porque el classpath del entrenamiento sigue siendo un prefijo.
+ *
+ * Propiedades de sistema:
+ * - carga.arranque.nombreJar: nombre del jar (lo define el pom con el finalName del build)
+ * - carga.arranque.repeticiones (default 3)
+ * - carga.arranque.jvmArgs: argumentos extra de la JVM, separados por espacios
+ */
+@Tag("carga")
+@Slf4j
+class ArranqueCargaTest {
+    
+    private static final int REPETICIONES = Integer.getInteger("carga.arranque.repeticiones", 3);
+    private static final Duration TIEMPO_MAXIMO = Duration.ofMinutes(2);
+    private static final Path DIRECTORIO_CDS = Path.of("target", "cds");
+    private static final String NOMBRE_JAR = System.getProperty("carga.arranque.nombreJar");
+    private static final Path ARCHIVO_CDS = DIRECTORIO_CDS.resolve("application.jsa");
+    
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+    
+    @Test
+    void primeraRequest() throws Exception {
+        if (NOMBRE_JAR == null) {
+            fail("Falta la propiedad carga.arranque.nombreJar, ejecutar con: mvn -Pload-test test");
+        }
+        Path jar = DIRECTORIO_CDS.resolve(NOMBRE_JAR);
+        assumeTrue(Files.exists(jar) && Files.exists(ARCHIVO_CDS),
+                "Falta el build fast-start en " + DIRECTORIO_CDS + ", correr antes: mvn -Pfast-start package");
+        LineaBaseCarga lineaBase = new LineaBaseCarga();
+        
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            tiempos[i] = medirArranque(i, jar);
+        }
+        Arrays.sort(tiempos);
+        long mediana = tiempos[REPETICIONES / 2];
+        
+        log.info("[arranque] primeraRequest mediana={}ms corridas={}", mediana, Arrays.toString(tiempos));
+        lineaBase.verificarArranque("arranque", mediana);
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private long medirArranque(int corrida, Path jar) throws Exception {
+        int puerto = puertoLibre();
+        Path log = Path.of("target", "arranque-" + corrida + ".log");
+        Files.createDirectories(log.getParent());
+        
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("carga.arranque.jvmArgs", "").trim();
+        if (!jvmArgs.isEmpty()) {
+            comando.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        comando.add("-Xshare:on");
+        comando.add("-XX:SharedArchiveFile=" + ARCHIVO_CDS.toAbsolutePath());
+        comando.add("-Dspring.aot.enabled=true");
+        comando.add("-cp");
+        comando.add(jar.toAbsolutePath() + File.pathSeparator + jarDriverH2());
+        comando.add(CarritoServiceApplication.class.getName());
+        comando.add("--spring.profiles.active=fast-start");
+        comando.add("--server.port=" + puerto);
+        comando.add("--spring.datasource.url=jdbc:h2:mem:arranque;DB_CLOSE_DELAY=-1");
+        comando.add("--spring.datasource.username=sa");
+        comando.add("--spring.datasource.password=");
+        comando.add("--spring.datasource.driver-class-name=" + Driver.class.getName());
+        comando.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+        
+        URI uri = URI.create("http://localhost:" + puerto + "/api/carrito/1");
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        
+        try {
+            long limite = inicio + TIEMPO_MAXIMO.toNanos();
+            while (System.nanoTime() < limite) {
+                if (!proceso.isAlive()) {
+                    fail("La aplicación terminó durante el arranque, ver " + log);
+                }
+                if (responde(uri)) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+                }
+                Thread.sleep(10);
+            }
+            fail("La aplicación no respondió en " + TIEMPO_MAXIMO + ", ver " + log);
+            return -1;
+        } finally {
+            proceso.destroy();
+            if (!proceso.waitFor(30, TimeUnit.SECONDS)) {
+                proceso.destroyForcibly();
+            }
+        }
+    }
+    
+    private boolean responde(URI uri) throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build();
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private static Path jarDriverH2() throws URISyntaxException {
+        return Path.of(Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+    
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
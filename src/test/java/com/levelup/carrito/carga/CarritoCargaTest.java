@@ -0,0 +1,156 @@
+package com.levelup.carrito.carga;
+
+import com.levelup.carrito.DatosPrueba;
+import com.levelup.carrito.dto.ActualizarCantidadDTO;
+import com.levelup.carrito.dto.AgregarItemDTO;
+import com.levelup.carrito.dto.CarritoDTO;
+import com.levelup.carrito.dto.ResumenTotalDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Suite de carga contra H2 embebida: mezclas realistas de llamadas a /api/carrito
+ * desde muchos clientes concurrentes. Solo corre con: mvn -Pload-test test
+ */
+@Tag("carga")
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CarritoCargaTest {
+    
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 16);
+    private static final int ITERACIONES = Integer.getInteger("carga.iteraciones", 200);
+    
+    // Cada cliente usa su propio usuario: un usuario solo puede tener un carrito ACTIVO
+    private static final AtomicLong SIGUIENTE_USUARIO = new AtomicLong(1_000);
+    
+    private static LineaBaseCarga lineaBase;
+    
+    @Autowired
+    private TestRestTemplate rest;
+    
+    private final GeneradorCarga generador = new GeneradorCarga(CLIENTES);
+    
+    @BeforeAll
+    static void cargarLineaBase() throws Exception {
+        lineaBase = new LineaBaseCarga();
+    }
+    
+    /**
+     * Navegación: carritos pequeños consultados muchas veces (GET carrito/total),
+     * con alguna actualización de cantidad ocasional
+     */
+    @Test
+    void navegacion() throws Exception {
+        GeneradorCarga.Cliente cliente = (clienteId, medidor) -> {
+            long usuarioId = SIGUIENTE_USUARIO.incrementAndGet();
+            CarritoDTO carrito = null;
+            for (int p = 0; p < 3; p++) {
+                carrito = agregar(medidor, usuarioId, 100 + p, 1);
+            }
+            Long itemId = carrito.getItems().get(0).getId();
+            
+            for (int i = 0; i < ITERACIONES; i++) {
+                int dado = ThreadLocalRandom.current().nextInt(100);
+                if (dado < 60) {
+                    medidor.medir(() -> rest.getForEntity("/api/carrito/{u}", CarritoDTO.class, usuarioId),
+                            ResponseEntity::getStatusCode);
+                } else if (dado < 95) {
+                    medidor.medir(() -> rest.getForEntity("/api/carrito/{u}/total", ResumenTotalDTO.class, usuarioId),
+                            ResponseEntity::getStatusCode);
+                } else {
+                    int cantidad = 1 + ThreadLocalRandom.current().nextInt(5);
+                    medidor.medir(() -> rest.exchange("/api/carrito/items/{i}", HttpMethod.PUT,
+                                    new HttpEntity<>(new ActualizarCantidadDTO(cantidad)), CarritoDTO.class, itemId),
+                            ResponseEntity::getStatusCode);
+                }
+            }
+        };
+        
+        ejecutarYVerificar("navegacion", cliente);
+    }
+    
+    /**
+     * Ráfaga de checkout: muchos usuarios arman un carrito corto, piden el total y lo cierran
+     */
+    @Test
+    void rafagaCheckout() throws Exception {
+        GeneradorCarga.Cliente cliente = (clienteId, medidor) -> {
+            for (int i = 0; i < ITERACIONES / 10; i++) {
+                long usuarioId = SIGUIENTE_USUARIO.incrementAndGet();
+                agregar(medidor, usuarioId, 200, 2);
+                agregar(medidor, usuarioId, 201, 1);
+                agregar(medidor, usuarioId, 200, 1);
+                medidor.medir(() -> rest.getForEntity("/api/carrito/{u}/total", ResumenTotalDTO.class, usuarioId),
+                        ResponseEntity::getStatusCode);
+                medidor.medir(() -> rest.postForEntity("/api/carrito/{u}/cerrar", null, Void.class, usuarioId),
+                        ResponseEntity::getStatusCode);
+            }
+        };
+        
+        ejecutarYVerificar("checkout", cliente);
+    }
+    
+    /**
+     * Carrito grande: carritos con muchos items consultados y modificados
+     */
+    @Test
+    void carritoGrande() throws Exception {
+        int productos = Integer.getInteger("carga.itemsCarritoGrande", 100);
+        
+        GeneradorCarga.Cliente cliente = (clienteId, medidor) -> {
+            long usuarioId = SIGUIENTE_USUARIO.incrementAndGet();
+            CarritoDTO carrito = null;
+            for (int p = 0; p < productos; p++) {
+                carrito = agregar(medidor, usuarioId, 10_000 + p, 1);
+            }
+            Long ultimoItemId = carrito.getItems().get(carrito.getItems().size() - 1).getId();
+            
+            for (int i = 0; i < ITERACIONES / 4; i++) {
+                medidor.medir(() -> rest.getForEntity("/api/carrito/{u}", CarritoDTO.class, usuarioId),
+                        ResponseEntity::getStatusCode);
+                medidor.medir(() -> rest.getForEntity("/api/carrito/{u}/total", ResumenTotalDTO.class, usuarioId),
+                        ResponseEntity::getStatusCode);
+            }
+            medidor.medir(() -> rest.exchange("/api/carrito/items/{i}", HttpMethod.DELETE,
+                    null, CarritoDTO.class, ultimoItemId), ResponseEntity::getStatusCode);
+            medidor.medir(() -> rest.exchange("/api/carrito/{u}/limpiar", HttpMethod.DELETE,
+                    null, Void.class, usuarioId), ResponseEntity::getStatusCode);
+        };
+        
+        ejecutarYVerificar("carritoGrande", cliente);
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private void ejecutarYVerificar(String escenario, GeneradorCarga.Cliente cliente) throws Exception {
+        // Calentamiento (JIT, pool de conexiones); su resultado se descarta
+        generador.ejecutar(escenario + "-warmup", cliente);
+        
+        GeneradorCarga.ResultadoCarga resultado = generador.ejecutar(escenario, cliente);
+        log.info(resultado.resumen());
+        
+        assertEquals(0, resultado.errores(), "Hubo respuestas no 2xx en " + escenario);
+        lineaBase.verificar(resultado);
+    }
+    
+    private CarritoDTO agregar(GeneradorCarga.Medidor medidor, long usuarioId, long productoId, int cantidad) {
+        AgregarItemDTO item = DatosPrueba.item(productoId, cantidad);
+        return medidor.medir(() -> rest.postForEntity("/api/carrito/{u}/items", item, CarritoDTO.class, usuarioId),
+                ResponseEntity::getStatusCode).getBody();
+    }
+}
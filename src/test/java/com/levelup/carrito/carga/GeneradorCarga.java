@@ -0,0 +1,125 @@
+package com.levelup.carrito.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.HttpStatusCode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta un escenario con N clientes concurrentes y registra la latencia
+ * de cada request en un histograma HdrHistogram (microsegundos).
+ */
+class GeneradorCarga {
+    
+    private static final long LATENCIA_MAXIMA_US = TimeUnit.SECONDS.toMicros(30);
+    
+    /**
+     * Un cliente virtual: ejecuta su secuencia de requests usando el medidor
+     */
+    @FunctionalInterface
+    interface Cliente {
+        void ejecutar(int clienteId, Medidor medidor) throws Exception;
+    }
+    
+    /**
+     * Mide una llamada HTTP y cuenta como error toda respuesta no 2xx
+     */
+    static class Medidor {
+        
+        private final Histogram histograma;
+        private final AtomicLong operaciones;
+        private final AtomicLong errores;
+        
+        private Medidor(Histogram histograma, AtomicLong operaciones, AtomicLong errores) {
+            this.histograma = histograma;
+            this.operaciones = operaciones;
+            this.errores = errores;
+        }
+        
+        <T> T medir(Supplier<T> llamada, Function<T, HttpStatusCode> status) {
+            long inicio = System.nanoTime();
+            T respuesta = llamada.get();
+            long latenciaUs = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+            
+            histograma.recordValue(Math.min(latenciaUs, LATENCIA_MAXIMA_US));
+            operaciones.incrementAndGet();
+            if (!status.apply(respuesta).is2xxSuccessful()) {
+                errores.incrementAndGet();
+            }
+            return respuesta;
+        }
+    }
+    
+    /**
+     * Resultado agregado de una corrida
+     */
+    record ResultadoCarga(String escenario, Histogram histograma, long operaciones, long errores, long duracionNanos) {
+        
+        double p50Ms() {
+            return histograma.getValueAtPercentile(50) / 1000.0;
+        }
+        
+        double p99Ms() {
+            return histograma.getValueAtPercentile(99) / 1000.0;
+        }
+        
+        double throughput() {
+            return operaciones / (duracionNanos / 1_000_000_000.0);
+        }
+        
+        String resumen() {
+            return String.format("[%s] ops=%d errores=%d p50=%.2fms p99=%.2fms max=%.2fms throughput=%.1f req/s",
+                    escenario, operaciones, errores, p50Ms(), p99Ms(),
+                    histograma.getMaxValue() / 1000.0, throughput());
+        }
+    }
+    
+    private final int clientes;
+    
+    GeneradorCarga(int clientes) {
+        this.clientes = clientes;
+    }
+    
+    ResultadoCarga ejecutar(String escenario, Cliente cliente) throws Exception {
+        Histogram histograma = new ConcurrentHistogram(LATENCIA_MAXIMA_US, 3);
+        AtomicLong operaciones = new AtomicLong();
+        AtomicLong errores = new AtomicLong();
+        Medidor medidor = new Medidor(histograma, operaciones, errores);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(clientes);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> futuros = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < clientes; i++) {
+                int clienteId = i;
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    cliente.ejecutar(clienteId, medidor);
+                    return null;
+                }));
+            }
+            
+            long inicio = System.nanoTime();
+            largada.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(5, TimeUnit.MINUTES);
+            }
+            long duracion = System.nanoTime() - inicio;
+            
+            return new ResultadoCarga(escenario, histograma, operaciones.get(), errores.get(), duracion);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.levelup.carrito.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Línea base de latencia/throughput/arranque versionada en src/test/resources/carga.
+ * Una corrida falla si el p99 o el arranque suben, o el throughput baja, más que la tolerancia.
+ *
+ * Propiedades de sistema:
+ * - carga.tolerancia (default 0.5 = 50%)
+ * - carga.actualizarLineaBase=true para reescribir la línea base con la corrida actual
+ */
+class LineaBaseCarga {
+    
+    static final String RECURSO = "/carga/linea-base.properties";
+    static final Path ARCHIVO_FUENTE = Path.of("src/test/resources/carga/linea-base.properties");
+    
+    private final Properties valores = new Properties();
+    private final double tolerancia = Double.parseDouble(System.getProperty("carga.tolerancia", "0.5"));
+    private final boolean actualizar = Boolean.getBoolean("carga.actualizarLineaBase");
+    
+    LineaBaseCarga() throws IOException {
+        try (InputStream in = LineaBaseCarga.class.getResourceAsStream(RECURSO)) {
+            if (in != null) {
+                valores.load(in);
+            }
+        }
+    }
+    
+    /**
+     * Compara el resultado contra la línea base (o la actualiza si se pidió)
+     */
+    void verificar(GeneradorCarga.ResultadoCarga resultado) throws IOException {
+        String escenario = resultado.escenario();
+        
+        if (actualizar) {
+            Map<String, String> valoresNuevos = new LinkedHashMap<>();
+            valoresNuevos.put(escenario + ".p99Ms", String.format(Locale.ROOT, "%.2f", resultado.p99Ms()));
+            valoresNuevos.put(escenario + ".throughput", String.format(Locale.ROOT, "%.1f", resultado.throughput()));
+            guardar(valoresNuevos);
+            return;
+        }
+        
+        String p99Base = valores.getProperty(escenario + ".p99Ms");
+        String throughputBase = valores.getProperty(escenario + ".throughput");
+        if (p99Base == null || throughputBase == null) {
+            fail("No hay línea base para el escenario '" + escenario
+                    + "'. Ejecute con -Dcarga.actualizarLineaBase=true para generarla.");
+        }
+        
+        double p99Maximo = Double.parseDouble(p99Base) * (1 + tolerancia);
+        double throughputMinimo = Double.parseDouble(throughputBase) * (1 - tolerancia);
+        
+        assertTrue(resultado.p99Ms() <= p99Maximo, String.format(Locale.ROOT,
+                "Regresión de p99 en %s: %.2fms > %.2fms (base %sms, tolerancia %.0f%%)",
+                escenario, resultado.p99Ms(), p99Maximo, p99Base, tolerancia * 100));
+        assertTrue(resultado.throughput() >= throughputMinimo, String.format(Locale.ROOT,
+                "Regresión de throughput en %s: %.1f req/s < %.1f req/s (base %s req/s, tolerancia %.0f%%)",
+                escenario, resultado.throughput(), throughputMinimo, throughputBase, tolerancia * 100));
+    }
+    
+    /**
+     * Compara el tiempo de arranque hasta la primera request contra la línea base
+     */
+    void verificarArranque(String escenario, double primeraRequestMs) throws IOException {
+        String clave = escenario + ".primeraRequestMs";
+        
+        if (actualizar) {
+            guardar(Map.of(clave, String.format(Locale.ROOT, "%.0f", primeraRequestMs)));
+            return;
+        }
+        
+        String base = valores.getProperty(clave);
+        if (base == null) {
+            fail("No hay línea base para el escenario '" + escenario
+                    + "'. Ejecute con -Dcarga.actualizarLineaBase=true para generarla.");
+        }
+        
+        double maximo = Double.parseDouble(base) * (1 + tolerancia);
+        assertTrue(primeraRequestMs <= maximo, String.format(Locale.ROOT,
+                "Regresión de arranque en %s: %.0fms > %.0fms (base %sms, tolerancia %.0f%%)",
+                escenario, primeraRequestMs, maximo, base, tolerancia * 100));
+    }
+    
+    private void guardar(Map<String, String> valoresNuevos) throws IOException {
+        Properties actuales = new Properties();
+        if (Files.exists(ARCHIVO_FUENTE)) {
+            try (InputStream in = Files.newInputStream(ARCHIVO_FUENTE)) {
+                actuales.load(in);
+            }
+        }
+        valoresNuevos.forEach(actuales::setProperty);
+        
+        // Claves ordenadas y sin fecha (Properties.store no lo permite) para que regenerar
+        // la línea base solo muestre en el diff los valores que cambiaron
+        List<String> lineas = new ArrayList<>();
+        lineas.add("# Linea base de carga - regenerar con -Pload-test -Dcarga.actualizarLineaBase=true");
+        new TreeSet<>(actuales.stringPropertyNames())
+                .forEach(clave -> lineas.add(clave + "=" + actuales.getProperty(clave)));
+        
+        Files.createDirectories(ARCHIVO_FUENTE.getParent());
+        Files.write(ARCHIVO_FUENTE, lineas);
+    }
+}
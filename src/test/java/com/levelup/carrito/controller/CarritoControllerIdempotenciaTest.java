@@ -0,0 +1,48 @@
+package com.levelup.carrito.controller;
+
+import com.levelup.carrito.dto.CarritoDTO;
+import com.levelup.carrito.service.IdempotenciaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.levelup.carrito.DatosPrueba.item;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el header Idempotency-Key de punta a punta (HTTP → controlador → base de datos)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CarritoControllerIdempotenciaTest {
+    
+    @Autowired
+    private TestRestTemplate rest;
+    
+    @Test
+    void postRepetidoConMismaClaveNoDuplicaLaCantidad() {
+        Long usuarioId = 801L;
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdempotenciaService.HEADER_IDEMPOTENCY_KEY, "agregar-801-1");
+        HttpEntity<?> request = new HttpEntity<>(item(50L, 2), headers);
+        
+        ResponseEntity<CarritoDTO> primera = rest.postForEntity("/api/carrito/{u}/items", request, CarritoDTO.class, usuarioId);
+        ResponseEntity<CarritoDTO> reintento = rest.postForEntity("/api/carrito/{u}/items", request, CarritoDTO.class, usuarioId);
+        
+        assertEquals(HttpStatus.CREATED, primera.getStatusCode());
+        assertNull(primera.getHeaders().getFirst(IdempotenciaService.HEADER_REPLAYED));
+        assertEquals(HttpStatus.CREATED, reintento.getStatusCode());
+        assertEquals("true", reintento.getHeaders().getFirst(IdempotenciaService.HEADER_REPLAYED));
+        assertEquals(2, reintento.getBody().getItems().get(0).getCantidad());
+        
+        CarritoDTO carrito = rest.getForObject("/api/carrito/{u}", CarritoDTO.class, usuarioId);
+        assertEquals(1, carrito.getItems().size());
+        assertEquals(2, carrito.getItems().get(0).getCantidad());
+    }
+}
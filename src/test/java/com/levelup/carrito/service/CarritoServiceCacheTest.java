@@ -0,0 +1,80 @@
+package com.levelup.carrito.service;
+
+import com.levelup.carrito.dto.CarritoDTO;
+import com.levelup.carrito.dto.EstadisticasCacheDTO;
+import com.levelup.carrito.dto.RegionCacheDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static com.levelup.carrito.DatosPrueba.item;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica el cache de segundo nivel (perfil 'cache'): las lecturas repetidas
+ * se sirven desde cache y cada mutación se refleja en la siguiente lectura.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "cache"})
+class CarritoServiceCacheTest {
+    
+    @Autowired
+    private CarritoService carritoService;
+    
+    @Autowired
+    private CacheEstadisticasService cacheEstadisticasService;
+    
+    @Test
+    void lecturasRepetidasUsanCache() {
+        Long usuarioId = 501L;
+        carritoService.agregarProducto(usuarioId, item(1L, 2), false);
+        carritoService.obtenerTotal(usuarioId);
+        
+        cacheEstadisticasService.reiniciarEstadisticas();
+        carritoService.obtenerTotal(usuarioId);
+        carritoService.obtenerTotal(usuarioId);
+        
+        EstadisticasCacheDTO estadisticas = cacheEstadisticasService.obtenerEstadisticas();
+        assertTrue(estadisticas.getHabilitado());
+        assertTrue(estadisticas.getQueryCacheHits() >= 2);
+        assertTrue(hits(estadisticas, "carritosActivos") >= 2);
+        assertTrue(hits(estadisticas, "carritoItems") >= 2);
+        assertTrue(hits(estadisticas, "itemsCarrito") >= 2);
+    }
+    
+    @Test
+    void mutacionesInvalidanCache() {
+        Long usuarioId = 502L;
+        CarritoDTO carrito = carritoService.agregarProducto(usuarioId, item(10L, 1), false);
+        assertEquals(1, carritoService.obtenerTotal(usuarioId).getCantidadItems());
+        
+        carrito = carritoService.agregarProducto(usuarioId, item(11L, 1), false);
+        assertEquals(2, carritoService.obtenerTotal(usuarioId).getCantidadItems());
+        
+        Long itemId = carrito.getItems().get(0).getId();
+        carritoService.actualizarCantidad(itemId, 3);
+        assertEquals(0, new BigDecimal("4000.00").compareTo(carritoService.obtenerTotal(usuarioId).getSubtotal()));
+        
+        carritoService.eliminarItem(itemId);
+        assertEquals(1, carritoService.obtenerTotal(usuarioId).getCantidadItems());
+        
+        carritoService.vaciarCarrito(usuarioId);
+        assertEquals(0, carritoService.obtenerTotal(usuarioId).getCantidadItems());
+        
+        carritoService.cerrarCarrito(usuarioId);
+        assertThrows(RuntimeException.class, () -> carritoService.obtenerTotal(usuarioId));
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private long hits(EstadisticasCacheDTO estadisticas, String region) {
+        return estadisticas.getRegiones().stream()
+                .filter(r -> r.getRegion().equals(region))
+                .mapToLong(RegionCacheDTO::getHits)
+                .findFirst()
+                .orElse(0L);
+    }
+}
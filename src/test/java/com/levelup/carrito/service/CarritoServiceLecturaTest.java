@@ -0,0 +1,155 @@
+package com.levelup.carrito.service;
+
+import com.levelup.carrito.dto.CarritoDTO;
+import com.levelup.carrito.dto.ResumenTotalDTO;
+import com.levelup.carrito.model.EstadoCarrito;
+import com.levelup.carrito.repository.CarritoRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.levelup.carrito.DatosPrueba.item;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifica que las lecturas concurrentes del mismo carrito se resuelvan con una sola carga
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CarritoServiceLecturaTest {
+    
+    private static final int LECTORES = 4;
+    
+    @Autowired
+    private CarritoService carritoService;
+    
+    @SpyBean
+    private CarritoRepository carritoRepository;
+    
+    @Test
+    void totalYCarritoSalenDelMismoSnapshot() {
+        Long usuarioId = 701L;
+        carritoService.agregarProducto(usuarioId, item(1L, 3), true);
+        
+        CarritoDTO carrito = carritoService.obtenerCarritoActivo(usuarioId, true);
+        ResumenTotalDTO resumen = carritoService.obtenerTotal(usuarioId);
+        
+        assertEquals(0, carrito.getSubtotal().compareTo(resumen.getSubtotal()));
+        assertEquals(0, carrito.getDescuentoMonto().compareTo(resumen.getDescuentoMonto()));
+        assertEquals(0, carrito.getTotal().compareTo(resumen.getTotal()));
+        assertEquals(carrito.getCantidadItems(), resumen.getCantidadItems());
+    }
+    
+    @Test
+    void lecturasConcurrentesCompartenUnaCarga() throws Exception {
+        Long usuarioId = 702L;
+        carritoService.agregarProducto(usuarioId, item(2L, 1), false);
+        clearInvocations(carritoRepository);
+        
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        // El spy de un repositorio Spring Data delega en el proxy real mediante su respuesta por defecto
+        Answer<?> real = mockingDetails(carritoRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocacion -> {
+            cargaIniciada.countDown();
+            liberarCarga.await(5, TimeUnit.SECONDS);
+            return real.answer(invocacion);
+        }).when(carritoRepository).findByUsuarioIdAndEstado(eq(usuarioId), eq(EstadoCarrito.ACTIVO));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(LECTORES + 1);
+        try {
+            Future<CarritoDTO> lider = executor.submit(() -> carritoService.obtenerCarritoActivo(usuarioId, false));
+            assertTrue(cargaIniciada.await(5, TimeUnit.SECONDS));
+            
+            List<Thread> hilos = new ArrayList<>();
+            List<Future<ResumenTotalDTO>> seguidores = new ArrayList<>();
+            for (int i = 0; i < LECTORES; i++) {
+                seguidores.add(executor.submit(() -> {
+                    synchronized (hilos) {
+                        hilos.add(Thread.currentThread());
+                    }
+                    return carritoService.obtenerTotal(usuarioId);
+                }));
+            }
+            esperarBloqueados(hilos);
+            liberarCarga.countDown();
+            
+            CarritoDTO carrito = lider.get(5, TimeUnit.SECONDS);
+            for (Future<ResumenTotalDTO> seguidor : seguidores) {
+                assertEquals(0, carrito.getTotal().compareTo(seguidor.get(5, TimeUnit.SECONDS).getTotal()));
+            }
+            verify(carritoRepository, times(1)).findByUsuarioIdAndEstado(usuarioId, EstadoCarrito.ACTIVO);
+        } finally {
+            liberarCarga.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void lecturaPosteriorAUnaEscrituraNoReusaUnaCargaAnterior() throws Exception {
+        Long usuarioId = 703L;
+        carritoService.agregarProducto(usuarioId, item(3L, 1), false);
+        clearInvocations(carritoRepository);
+        
+        // Solo la primera consulta (la del líder) queda detenida después de leer la base de datos
+        AtomicBoolean primera = new AtomicBoolean(true);
+        CountDownLatch consultaHecha = new CountDownLatch(1);
+        CountDownLatch liberarLider = new CountDownLatch(1);
+        Answer<?> real = mockingDetails(carritoRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocacion -> {
+            Object resultado = real.answer(invocacion);
+            if (primera.compareAndSet(true, false)) {
+                consultaHecha.countDown();
+                liberarLider.await(5, TimeUnit.SECONDS);
+            }
+            return resultado;
+        }).when(carritoRepository).findByUsuarioIdAndEstado(eq(usuarioId), eq(EstadoCarrito.ACTIVO));
+        
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResumenTotalDTO> lider = executor.submit(() -> carritoService.obtenerTotal(usuarioId));
+            assertTrue(consultaHecha.await(5, TimeUnit.SECONDS));
+            
+            // La escritura se confirma mientras la carga del líder sigue en curso
+            carritoService.agregarProducto(usuarioId, item(4L, 1), false);
+            
+            Future<ResumenTotalDTO> seguidor = executor.submit(() -> carritoService.obtenerTotal(usuarioId));
+            assertEquals(2, seguidor.get(5, TimeUnit.SECONDS).getCantidadItems());
+            
+            liberarLider.countDown();
+            assertNotNull(lider.get(5, TimeUnit.SECONDS));
+        } finally {
+            liberarLider.countDown();
+            executor.shutdownNow();
+        }
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private void esperarBloqueados(List<Thread> hilos) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            synchronized (hilos) {
+                if (hilos.size() == LECTORES && hilos.stream().allMatch(h -> h.getState() == Thread.State.WAITING)) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("Los lectores no quedaron esperando la carga en curso");
+    }
+}
@@ -0,0 +1,196 @@
+package com.levelup.carrito.service;
+
+import com.levelup.carrito.dto.CarritoDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotenciaServiceTest {
+    
+    private final IdempotenciaService idempotenciaService = new IdempotenciaService(60, 1000);
+    
+    @Test
+    void sinClaveSiempreEjecuta() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        
+        idempotenciaService.ejecutar(null, "POST /a", () -> creado(ejecuciones));
+        idempotenciaService.ejecutar(null, "POST /a", () -> creado(ejecuciones));
+        
+        assertEquals(2, ejecuciones.get());
+    }
+    
+    @Test
+    void reintentoReenviaRespuestaGuardada() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        
+        ResponseEntity<CarritoDTO> primera = idempotenciaService.ejecutar("k1", "POST /a", () -> creado(ejecuciones));
+        ResponseEntity<CarritoDTO> reintento = idempotenciaService.ejecutar("k1", "POST /a", () -> creado(ejecuciones));
+        
+        assertEquals(1, ejecuciones.get());
+        assertEquals(HttpStatus.CREATED, reintento.getStatusCode());
+        assertSame(primera.getBody(), reintento.getBody());
+        assertEquals("true", reintento.getHeaders().getFirst(IdempotenciaService.HEADER_REPLAYED));
+    }
+    
+    @Test
+    void claveReutilizadaConOtraRequestDevuelve422() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        
+        idempotenciaService.ejecutar("k2", "POST /a", () -> creado(ejecuciones));
+        ResponseEntity<CarritoDTO> otra = idempotenciaService.ejecutar("k2", "POST /b", () -> creado(ejecuciones));
+        
+        assertEquals(1, ejecuciones.get());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, otra.getStatusCode());
+    }
+    
+    @Test
+    void respuestasConErrorNoSeGuardan() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        
+        ResponseEntity<CarritoDTO> fallida = idempotenciaService.ejecutar("k3", "POST /a", () -> {
+            ejecuciones.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        });
+        ResponseEntity<CarritoDTO> reintento = idempotenciaService.ejecutar("k3", "POST /a", () -> creado(ejecuciones));
+        
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, fallida.getStatusCode());
+        assertEquals(HttpStatus.CREATED, reintento.getStatusCode());
+        assertEquals(2, ejecuciones.get());
+    }
+    
+    @Test
+    void claveInvalidaDevuelve400() {
+        ResponseEntity<CarritoDTO> respuesta = idempotenciaService.ejecutar(" ", "POST /a",
+                () -> creado(new AtomicInteger()));
+        
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+    }
+    
+    @Test
+    void reintentosConcurrentesEjecutanUnaSolaVez() throws Exception {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        
+        Future<ResponseEntity<CarritoDTO>>[] respuestas = ejecutarConcurrente(idempotenciaService,
+                () -> creado(ejecuciones), () -> creado(ejecuciones));
+        
+        ResponseEntity<CarritoDTO> seguidor = respuestas[1].get(5, TimeUnit.SECONDS);
+        assertSame(respuestas[0].get(5, TimeUnit.SECONDS).getBody(), seguidor.getBody());
+        assertEquals("true", seguidor.getHeaders().getFirst(IdempotenciaService.HEADER_REPLAYED));
+        assertEquals(1, ejecuciones.get());
+    }
+    
+    @Test
+    void reintentoConcurrenteNoSeEjecutaAunqueElCacheNoGuardeNada() throws Exception {
+        // Peso máximo 0: el cache acotado no retiene respuestas, la marca "en curso" no depende de él
+        IdempotenciaService sinEspacio = new IdempotenciaService(60, 0);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        
+        Future<ResponseEntity<CarritoDTO>>[] respuestas = ejecutarConcurrente(sinEspacio,
+                () -> creado(ejecuciones), () -> creado(ejecuciones));
+        
+        respuestas[0].get(5, TimeUnit.SECONDS);
+        respuestas[1].get(5, TimeUnit.SECONDS);
+        assertEquals(1, ejecuciones.get());
+    }
+    
+    @Test
+    void errorEnCursoNoSeMarcaComoReenviado() throws Exception {
+        Future<ResponseEntity<CarritoDTO>>[] respuestas = ejecutarConcurrente(idempotenciaService,
+                () -> ResponseEntity.status(HttpStatus.NOT_FOUND).build(),
+                () -> creado(new AtomicInteger()));
+        
+        ResponseEntity<CarritoDTO> seguidor = respuestas[1].get(5, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.NOT_FOUND, seguidor.getStatusCode());
+        assertNull(seguidor.getHeaders().getFirst(IdempotenciaService.HEADER_REPLAYED));
+    }
+    
+    @Test
+    void excepcionEnCursoSePropagaSinEnvolver() throws Exception {
+        Future<ResponseEntity<CarritoDTO>>[] respuestas = ejecutarConcurrente(idempotenciaService,
+                () -> {
+                    throw new IllegalStateException("falla");
+                },
+                () -> creado(new AtomicInteger()));
+        
+        ExecutionException lider = assertThrows(ExecutionException.class, () -> respuestas[0].get(5, TimeUnit.SECONDS));
+        ExecutionException seguidor = assertThrows(ExecutionException.class, () -> respuestas[1].get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, lider.getCause());
+        assertInstanceOf(IllegalStateException.class, seguidor.getCause());
+    }
+    
+    // ===== MÉTODOS PRIVADOS =====
+    
+    private ResponseEntity<CarritoDTO> creado(AtomicInteger ejecuciones) {
+        ejecuciones.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(CarritoDTO.builder().id(1L).build());
+    }
+    
+    /**
+     * Ejecuta dos requests con la misma clave: la segunda llega mientras la primera está en curso
+     * y la primera solo termina cuando la segunda ya quedó esperando
+     */
+    @SuppressWarnings("unchecked")
+    private Future<ResponseEntity<CarritoDTO>>[] ejecutarConcurrente(IdempotenciaService servicio,
+            Supplier<ResponseEntity<CarritoDTO>> lider,
+            Supplier<ResponseEntity<CarritoDTO>> seguidor) throws Exception {
+        
+        CountDownLatch enEjecucion = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicReference<Thread> hiloSeguidor = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        
+        try {
+            Future<ResponseEntity<CarritoDTO>> primera = executor.submit(() ->
+                    servicio.ejecutar("concurrente", "POST /a", () -> {
+                        enEjecucion.countDown();
+                        await(liberar);
+                        return lider.get();
+                    }));
+            assertTrue(enEjecucion.await(5, TimeUnit.SECONDS));
+            
+            Future<ResponseEntity<CarritoDTO>> segunda = executor.submit(() -> {
+                hiloSeguidor.set(Thread.currentThread());
+                return servicio.ejecutar("concurrente", "POST /a", seguidor);
+            });
+            esperarBloqueado(hiloSeguidor);
+            liberar.countDown();
+            
+            return new Future[] {primera, segunda};
+        } finally {
+            liberar.countDown();
+            executor.shutdown();
+        }
+    }
+    
+    private static void esperarBloqueado(AtomicReference<Thread> hilo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < limite) {
+            Thread actual = hilo.get();
+            if (actual != null && actual.getState() == Thread.State.WAITING) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("La segunda request no quedó esperando la ejecución en curso");
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.levelupgamer.carro_service;
 
+import com.levelup.carrito.CarritoServiceApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(classes = CarritoServiceApplication.class)
+@ActiveProfiles("test")
 class CarroServiceApplicationTests {
 
 	@Test